@@ -0,0 +1,75 @@
+package software.lab1;
+
+import java.util.Arrays;
+
+/**
+ * The default tokenizer: a token is a run of ASCII letters, everything else separates tokens.
+ * Characters are classified through a 128-entry lookup table and copied into a reusable buffer,
+ * so tokenizing allocates nothing once the buffer has grown to the longest token.
+ */
+public class AsciiTokenizer implements Tokenizer {
+
+  // Maps each ASCII char to the char it contributes to a token, or 0 for a separator
+  private static final char[] FOLDING_TABLE = new char[128];
+  private static final char[] PRESERVING_TABLE = new char[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      FOLDING_TABLE[c] = c;
+      PRESERVING_TABLE[c] = c;
+    }
+    for (char c = 'A'; c <= 'Z'; c++) {
+      FOLDING_TABLE[c] = Character.toLowerCase(c);
+      PRESERVING_TABLE[c] = c;
+    }
+  }
+
+  private final char[] table;
+  private char[] buffer = new char[32];
+
+  /**
+   * Constructs a tokenizer that folds tokens to lower case.
+   */
+  public AsciiTokenizer() {
+    this(true);
+  }
+
+  /**
+   * Constructs a tokenizer.
+   *
+   * @param foldCase Whether to convert tokens to lower case.
+   */
+  public AsciiTokenizer(boolean foldCase) {
+    this.table = foldCase ? FOLDING_TABLE : PRESERVING_TABLE;
+  }
+
+  @Override
+  public Tokenizer copy() {
+    return new AsciiTokenizer(table == FOLDING_TABLE);
+  }
+
+  @Override
+  public void tokenize(CharSequence text, TokenSink sink) {
+    final int n = text.length();
+    int length = 0;
+    int start = 0;
+    for (int i = 0; i < n; i++) {
+      char c = text.charAt(i);
+      char mapped = c < 128 ? table[c] : 0;
+      if (mapped != 0) {
+        if (length == 0) {
+          start = i;
+        } else if (length == buffer.length) {
+          buffer = Arrays.copyOf(buffer, length * 2);
+        }
+        buffer[length++] = mapped;
+      } else if (length > 0) {
+        sink.accept(buffer, length, start, i);
+        length = 0;
+      }
+    }
+    if (length > 0) {
+      sink.accept(buffer, length, start, n);
+    }
+  }
+}
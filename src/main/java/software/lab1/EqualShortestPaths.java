@@ -0,0 +1,131 @@
+package software.lab1;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily enumerates every shortest path between two nodes of an {@link IndexedGraph}.
+ * One Dijkstra search builds the predecessor DAG: for each node, all neighbours that reach
+ * it on some shortest path. Paths are then produced one at a time by a depth-first walk
+ * back from the target, so taking the first few costs little more than the search itself.
+ */
+final class EqualShortestPaths implements Iterator<int[]> {
+
+  // All arrays are indexed by reach order (0 is the source), not node id,
+  // so they are sized by the nodes the search visited rather than the whole graph
+  private final int[] nodes; // Node id per reach index
+  private final int[] predOffsets;
+  private final int[] preds;
+  private final int[] stack; // Current partial path, from the target backwards
+  private final int[] cursor; // Next predecessor to try, per stack frame
+  private int depth;
+  private int[] next;
+
+  /**
+   * Prepares the enumeration. The search is only needed here, not while iterating.
+   *
+   * @param graph  The graph.
+   * @param source The source node id.
+   * @param target The target node id.
+   */
+  EqualShortestPaths(IndexedGraph graph, int source, int target) {
+    ShortestPathSearch search = new ShortestPathSearch(graph);
+    search.run(source, target, null, null);
+
+    final int count = search.reachedCount();
+    nodes = new int[count];
+    for (int i = 0; i < count; i++) {
+      nodes[i] = search.reached(i);
+    }
+    predOffsets = new int[count + 1];
+    // Every node on a shortest path to the target is closer to the source than the target is,
+    // so it is already settled even though the search stopped early
+    for (int i = 0; i < count; i++) {
+      int u = nodes[i];
+      if (!search.isSettled(u)) {
+        continue;
+      }
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        if (isTight(graph, search, u, e)) {
+          predOffsets[search.reachedIndex(graph.targets[e]) + 1]++;
+        }
+      }
+    }
+    for (int j = 0; j < count; j++) {
+      predOffsets[j + 1] += predOffsets[j];
+    }
+    preds = new int[predOffsets[count]];
+    int[] fill = new int[count];
+    for (int i = 0; i < count; i++) {
+      int u = nodes[i];
+      if (!search.isSettled(u)) {
+        continue;
+      }
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        if (isTight(graph, search, u, e)) {
+          int j = search.reachedIndex(graph.targets[e]);
+          preds[predOffsets[j] + fill[j]++] = i;
+        }
+      }
+    }
+
+    stack = new int[count];
+    cursor = new int[count];
+    if (search.isSettled(target)) {
+      int t = search.reachedIndex(target);
+      stack[0] = t;
+      cursor[0] = predOffsets[t];
+      depth = 1;
+    }
+  }
+
+  // An edge lies on a shortest path exactly when it is tight: dist[u] + w == dist[v]
+  private static boolean isTight(IndexedGraph graph, ShortestPathSearch search, int u, int e) {
+    int v = graph.targets[e];
+    return search.isSettled(v)
+        && (long) search.distance(u) + graph.weights[e] == search.distance(v);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      next = advance();
+    }
+    return next != null;
+  }
+
+  @Override
+  public int[] next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    int[] path = next;
+    next = null;
+    return path;
+  }
+
+  private int[] advance() {
+    while (depth > 0) {
+      int v = stack[depth - 1];
+      if (v == 0) {
+        // Reached the source: the stack holds the path backwards, and the source has
+        // no predecessors, so pop it
+        int[] path = new int[depth];
+        for (int i = 0; i < depth; i++) {
+          path[i] = nodes[stack[depth - 1 - i]];
+        }
+        depth--;
+        return path;
+      }
+      if (cursor[depth - 1] < predOffsets[v + 1]) {
+        int u = preds[cursor[depth - 1]++];
+        stack[depth] = u;
+        cursor[depth] = predOffsets[u];
+        depth++;
+      } else {
+        depth--;
+      }
+    }
+    return null;
+  }
+}
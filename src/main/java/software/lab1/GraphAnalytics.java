@@ -0,0 +1,338 @@
+package software.lab1;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Graph-wide analytics computed in a single pass over a {@link WordGraph}:
+ * strongly connected components (iterative Tarjan), the condensation DAG,
+ * and in/out degree histograms.
+ * Component ids follow Tarjan's completion order, so every condensation edge
+ * goes from a higher id to a lower id. Together with the longest-path height of each
+ * component this lets {@link #mayReach(String, String)} reject most unreachable pairs in O(1).
+ */
+public final class GraphAnalytics {
+
+  private final IndexedGraph graph;
+  private final int[] componentOf;
+  private final int[] componentSizes;
+  private final int[] dagOffsets; // Condensation DAG in CSR form, indexed by component id
+  private final int[] dagTargets;
+  private final int[] heights; // Longest path (in components) from a component to a sink
+  private final int[] inDegreeHistogram;
+  private final int[] outDegreeHistogram;
+
+  GraphAnalytics(IndexedGraph graph) {
+    this.graph = graph;
+    this.componentOf = new int[graph.size()];
+    int componentCount = findComponents();
+
+    componentSizes = new int[componentCount];
+    for (int c : componentOf) {
+      componentSizes[c]++;
+    }
+
+    dagOffsets = new int[componentCount + 1];
+    dagTargets = buildCondensation(componentCount);
+
+    // Successors always have smaller ids, so one ascending sweep settles every height
+    heights = new int[componentCount];
+    for (int c = 0; c < componentCount; c++) {
+      for (int i = dagOffsets[c]; i < dagOffsets[c + 1]; i++) {
+        heights[c] = Math.max(heights[c], heights[dagTargets[i]] + 1);
+      }
+    }
+
+    int n = graph.size();
+    int[] inDegrees = new int[n];
+    int maxIn = 0;
+    int maxOut = 0;
+    for (int u = 0; u < n; u++) {
+      maxOut = Math.max(maxOut, graph.offsets[u + 1] - graph.offsets[u]);
+    }
+    for (int v : graph.targets) {
+      maxIn = Math.max(maxIn, ++inDegrees[v]);
+    }
+    inDegreeHistogram = new int[maxIn + 1];
+    outDegreeHistogram = new int[maxOut + 1];
+    for (int u = 0; u < n; u++) {
+      inDegreeHistogram[inDegrees[u]]++;
+      outDegreeHistogram[graph.offsets[u + 1] - graph.offsets[u]]++;
+    }
+  }
+
+  /**
+   * Labels every node with its strongly connected component using Tarjan's algorithm.
+   * The DFS keeps its own explicit stack so deep graphs cannot overflow the thread stack.
+   *
+   * @return The number of components found.
+   */
+  private int findComponents() {
+    final int n = graph.size();
+    final int[] offsets = graph.offsets;
+    final int[] targets = graph.targets;
+
+    int[] index = new int[n];
+    Arrays.fill(index, -1);
+    int[] low = new int[n];
+    boolean[] onStack = new boolean[n];
+    int[] sccStack = new int[n];
+    int[] callStack = new int[n];
+    int[] edgeCursor = new int[n]; // Next edge to explore, per call stack frame
+    int sccTop = 0;
+    int nextIndex = 0;
+    int componentCount = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (index[root] != -1) {
+        continue;
+      }
+      int depth = 0;
+      index[root] = low[root] = nextIndex++;
+      sccStack[sccTop++] = root;
+      onStack[root] = true;
+      callStack[depth] = root;
+      edgeCursor[depth++] = offsets[root];
+
+      while (depth > 0) {
+        int u = callStack[depth - 1];
+        if (edgeCursor[depth - 1] < offsets[u + 1]) {
+          int v = targets[edgeCursor[depth - 1]++];
+          if (index[v] == -1) {
+            // "Recurse" into v
+            index[v] = low[v] = nextIndex++;
+            sccStack[sccTop++] = v;
+            onStack[v] = true;
+            callStack[depth] = v;
+            edgeCursor[depth++] = offsets[v];
+          } else if (onStack[v]) {
+            low[u] = Math.min(low[u], index[v]);
+          }
+          continue;
+        }
+
+        // All edges of u explored: "return" from u
+        depth--;
+        if (low[u] == index[u]) {
+          int w;
+          do {
+            w = sccStack[--sccTop];
+            onStack[w] = false;
+            componentOf[w] = componentCount;
+          } while (w != u);
+          componentCount++;
+        }
+        if (depth > 0) {
+          int parent = callStack[depth - 1];
+          low[parent] = Math.min(low[parent], low[u]);
+        }
+      }
+    }
+    return componentCount;
+  }
+
+  /**
+   * Builds the deduplicated edge list of the condensation DAG and fills {@code dagOffsets}.
+   *
+   * @param componentCount The number of components.
+   * @return The successor components, grouped by source component.
+   */
+  private int[] buildCondensation(int componentCount) {
+    final int n = graph.size();
+
+    // Group nodes by component with a counting sort
+    int[] memberOffsets = new int[componentCount + 1];
+    for (int c : componentOf) {
+      memberOffsets[c + 1]++;
+    }
+    for (int c = 0; c < componentCount; c++) {
+      memberOffsets[c + 1] += memberOffsets[c];
+    }
+    int[] members = new int[n];
+    int[] fill = Arrays.copyOf(memberOffsets, componentCount);
+    for (int u = 0; u < n; u++) {
+      members[fill[componentOf[u]]++] = u;
+    }
+
+    int[] lastSeen = new int[componentCount]; // Dedup marker: last source component + 1
+    int[] result = new int[Math.min(graph.edgeCount(), 16)];
+    int size = 0;
+    for (int c = 0; c < componentCount; c++) {
+      for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+        int u = members[i];
+        for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+          int d = componentOf[graph.targets[e]];
+          if (d != c && lastSeen[d] != c + 1) {
+            lastSeen[d] = c + 1;
+            if (size == result.length) {
+              result = Arrays.copyOf(result, Math.max(16, size * 2));
+            }
+            result[size++] = d;
+          }
+        }
+      }
+      dagOffsets[c + 1] = size;
+    }
+    return Arrays.copyOf(result, size);
+  }
+
+  /**
+   * Returns the number of nodes (words) in the analysed graph.
+   *
+   * @return The node count.
+   */
+  public int nodeCount() {
+    return graph.size();
+  }
+
+  /**
+   * Returns the number of distinct directed edges in the analysed graph.
+   *
+   * @return The edge count.
+   */
+  public int edgeCount() {
+    return graph.edgeCount();
+  }
+
+  /**
+   * Returns the number of strongly connected components.
+   *
+   * @return The component count.
+   */
+  public int componentCount() {
+    return componentSizes.length;
+  }
+
+  /**
+   * Returns the strongly connected component a word belongs to.
+   * Component ids are in reverse topological order of the condensation DAG.
+   * Public callers go through {@link WordGraph#componentOf(String)}, which normalizes the word.
+   *
+   * @param word The word exactly as stored, i.e. already normalized by the graph's tokenizer.
+   * @return The component id, or -1 if the word is not in the graph.
+   */
+  int componentOf(String word) {
+    int id = graph.idOf(word);
+    return id == -1 ? -1 : componentOf[id];
+  }
+
+  /**
+   * Returns the size of every strongly connected component.
+   *
+   * @return A fresh array indexed by component id.
+   */
+  public int[] componentSizes() {
+    return componentSizes.clone();
+  }
+
+  /**
+   * Returns the size of the largest strongly connected component.
+   *
+   * @return The largest component size, or 0 for an empty graph.
+   */
+  public int largestComponentSize() {
+    int max = 0;
+    for (int size : componentSizes) {
+      max = Math.max(max, size);
+    }
+    return max;
+  }
+
+  /**
+   * Returns the direct successors of a component in the condensation DAG.
+   *
+   * @param component The component id.
+   * @return A fresh array of successor component ids, each smaller than {@code component}.
+   */
+  public int[] condensationSuccessors(int component) {
+    return Arrays.copyOfRange(dagTargets, dagOffsets[component], dagOffsets[component + 1]);
+  }
+
+  /**
+   * Returns the number of edges in the condensation DAG.
+   *
+   * @return The number of distinct component-to-component edges.
+   */
+  public int condensationEdgeCount() {
+    return dagTargets.length;
+  }
+
+  /**
+   * Checks in O(1) whether word2 might be reachable from word1.
+   * A {@code false} result is exact: no path exists. A {@code true} result is exact when
+   * both words share a component, and otherwise only means the pair passed the cheap filters
+   * (component order and DAG height), so a full search is still needed.
+   *
+   * Public callers go through {@link WordGraph#mayReach(String, String)}, which normalizes
+   * the words.
+   *
+   * @param word1 The starting word, already normalized by the graph's tokenizer.
+   * @param word2 The ending word, already normalized by the graph's tokenizer.
+   * @return false if word2 is definitely unreachable from word1 or either word is missing.
+   */
+  boolean mayReach(String word1, String word2) {
+    int from = componentOf(word1);
+    int to = componentOf(word2);
+    if (from == -1 || to == -1) {
+      return false;
+    }
+    return from == to || (from > to && heights[from] > heights[to]);
+  }
+
+  /**
+   * Returns the in-degree histogram: entry d counts the nodes with d distinct predecessors.
+   *
+   * @return A fresh histogram array.
+   */
+  public int[] inDegreeHistogram() {
+    return inDegreeHistogram.clone();
+  }
+
+  /**
+   * Returns the out-degree histogram: entry d counts the nodes with d distinct successors.
+   *
+   * @return A fresh histogram array.
+   */
+  public int[] outDegreeHistogram() {
+    return outDegreeHistogram.clone();
+  }
+
+  /**
+   * Writes the statistics as tab-separated lines, suitable for capacity planning tools.
+   * Summary lines are "key value"; histogram lines are "key degree count",
+   * with zero-count degrees omitted.
+   *
+   * @param out The destination; it is not flushed or closed.
+   * @throws IOException If writing fails.
+   */
+  public void exportStats(Writer out) throws IOException {
+    writeLine(out, "nodes", nodeCount());
+    writeLine(out, "edges", edgeCount());
+    writeLine(out, "components", componentCount());
+    writeLine(out, "largest_component", largestComponentSize());
+    writeLine(out, "condensation_edges", condensationEdgeCount());
+    writeHistogram(out, "in_degree", inDegreeHistogram);
+    writeHistogram(out, "out_degree", outDegreeHistogram);
+  }
+
+  private static void writeLine(Writer out, String key, int value) throws IOException {
+    out.write(key);
+    out.write('\t');
+    out.write(Integer.toString(value));
+    out.write('\n');
+  }
+
+  private static void writeHistogram(Writer out, String key, int[] histogram) throws IOException {
+    for (int degree = 0; degree < histogram.length; degree++) {
+      if (histogram[degree] != 0) {
+        out.write(key);
+        out.write('\t');
+        out.write(Integer.toString(degree));
+        out.write('\t');
+        out.write(Integer.toString(histogram[degree]));
+        out.write('\n');
+      }
+    }
+  }
+}
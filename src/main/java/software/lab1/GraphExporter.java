@@ -0,0 +1,165 @@
+package software.lab1;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a word graph to a {@link Writer} in one of the {@link GraphFormat}s.
+ * Edges are written straight from the adjacency maps as they are visited, so unsorted exports
+ * use constant extra memory; a sorted export additionally holds one sorted array of words
+ * and one of the current node's successors.
+ * The writer should be buffered; nothing is flushed or closed here.
+ */
+final class GraphExporter {
+
+  private final Map<String, Map<String, Integer>> adjList;
+  private final Set<String> allWords;
+  private final boolean sorted;
+  private final int minWeight;
+
+  /**
+   * Constructs an exporter.
+   *
+   * @param adjList   The adjacency list: Map&lt;sourceWord, Map&lt;destinationWord, weight&gt;&gt;.
+   * @param allWords  All words in the graph.
+   * @param sorted    Whether to write nodes and edges in lexicographic order.
+   * @param minWeight Edges lighter than this are skipped.
+   */
+  GraphExporter(Map<String, Map<String, Integer>> adjList, Set<String> allWords,
+                boolean sorted, int minWeight) {
+    this.adjList = adjList;
+    this.allWords = allWords;
+    this.sorted = sorted;
+    this.minWeight = minWeight;
+  }
+
+  /**
+   * Writes the graph.
+   *
+   * @param out    The destination.
+   * @param format The output format.
+   * @throws IOException If writing fails.
+   */
+  void write(Writer out, GraphFormat format) throws IOException {
+    switch (format) {
+      case TSV:
+        writeEdges(out, format);
+        break;
+      case DOT:
+        out.write("digraph WordGraph {\n");
+        writeEdges(out, format);
+        out.write("}\n");
+        break;
+      case GRAPHML:
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+            + "  <key id=\"weight\" for=\"edge\" attr.name=\"weight\" attr.type=\"int\"/>\n"
+            + "  <graph id=\"WordGraph\" edgedefault=\"directed\">\n");
+        for (String word : ordered(allWords)) {
+          out.write("    <node id=\"");
+          writeXml(out, word);
+          out.write("\"/>\n");
+        }
+        writeEdges(out, format);
+        out.write("  </graph>\n</graphml>\n");
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported format: " + format);
+    }
+  }
+
+  private void writeEdges(Writer out, GraphFormat format) throws IOException {
+    for (String source : ordered(adjList.keySet())) {
+      Map<String, Integer> destinations = adjList.get(source);
+      for (String destination : ordered(destinations.keySet())) {
+        int weight = destinations.get(destination);
+        if (weight >= minWeight) {
+          writeEdge(out, format, source, destination, weight);
+        }
+      }
+    }
+  }
+
+  private static void writeEdge(Writer out, GraphFormat format,
+                                String source, String destination, int weight)
+      throws IOException {
+    switch (format) {
+      case TSV:
+        out.write(source);
+        out.write('\t');
+        out.write(destination);
+        out.write('\t');
+        out.write(Integer.toString(weight));
+        out.write('\n');
+        break;
+      case DOT:
+        out.write("  \"");
+        writeDot(out, source);
+        out.write("\" -> \"");
+        writeDot(out, destination);
+        out.write("\" [weight=");
+        out.write(Integer.toString(weight));
+        out.write(", label=");
+        out.write(Integer.toString(weight));
+        out.write("];\n");
+        break;
+      case GRAPHML:
+        out.write("    <edge source=\"");
+        writeXml(out, source);
+        out.write("\" target=\"");
+        writeXml(out, destination);
+        out.write("\"><data key=\"weight\">");
+        out.write(Integer.toString(weight));
+        out.write("</data></edge>\n");
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported format: " + format);
+    }
+  }
+
+  // Returns the words as-is, or as a sorted array when a sorted export was requested
+  private Iterable<String> ordered(Collection<String> words) {
+    if (!sorted) {
+      return words;
+    }
+    String[] array = words.toArray(new String[0]);
+    Arrays.sort(array);
+    return Arrays.asList(array);
+  }
+
+  private static void writeDot(Writer out, String word) throws IOException {
+    for (int i = 0; i < word.length(); i++) {
+      char c = word.charAt(i);
+      if (c == '"' || c == '\\') {
+        out.write('\\');
+      }
+      out.write(c);
+    }
+  }
+
+  private static void writeXml(Writer out, String word) throws IOException {
+    for (int i = 0; i < word.length(); i++) {
+      char c = word.charAt(i);
+      switch (c) {
+        case '&':
+          out.write("&amp;");
+          break;
+        case '<':
+          out.write("&lt;");
+          break;
+        case '>':
+          out.write("&gt;");
+          break;
+        case '"':
+          out.write("&quot;");
+          break;
+        default:
+          out.write(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package software.lab1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which words and edges a filtered copy of a {@link WordGraph} keeps.
+ * Filters are immutable; each {@code with...} method returns a new filter.
+ * Criteria are applied in order: word frequency, then edge weight, then the per-node
+ * out-edge limit, so the limit picks the heaviest of the edges that survive the others.
+ */
+public final class GraphFilter {
+
+  /** A filter that keeps every word and edge. */
+  public static final GraphFilter NONE = new GraphFilter(1, Integer.MAX_VALUE, 1);
+
+  private final int minEdgeWeight;
+  private final int maxOutEdges;
+  private final int minWordFrequency;
+
+  private GraphFilter(int minEdgeWeight, int maxOutEdges, int minWordFrequency) {
+    this.minEdgeWeight = minEdgeWeight;
+    this.maxOutEdges = maxOutEdges;
+    this.minWordFrequency = minWordFrequency;
+  }
+
+  /**
+   * Returns a filter that also drops edges lighter than the given weight.
+   *
+   * @param weight The minimum edge weight to keep; every edge weighs at least 1.
+   * @return The new filter.
+   * @throws IllegalArgumentException If weight is less than 1.
+   */
+  public GraphFilter withMinEdgeWeight(int weight) {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Minimum edge weight must be at least 1: " + weight);
+    }
+    return new GraphFilter(weight, maxOutEdges, minWordFrequency);
+  }
+
+  /**
+   * Returns a filter that also keeps only the k heaviest out-edges of each word.
+   * Ties are broken by destination word, so the result does not depend on map order.
+   *
+   * @param k The maximum number of out-edges per word; 0 drops every edge.
+   * @return The new filter.
+   * @throws IllegalArgumentException If k is negative.
+   */
+  public GraphFilter withMaxOutEdges(int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("Maximum out-edges per word must not be negative: " + k);
+    }
+    return new GraphFilter(minEdgeWeight, k, minWordFrequency);
+  }
+
+  /**
+   * Returns a filter that also drops words occurring fewer times than the given count
+   * in the source text, together with all of their edges.
+   *
+   * @param frequency The minimum number of occurrences to keep a word;
+   *     every word occurs at least once.
+   * @return The new filter.
+   * @throws IllegalArgumentException If frequency is less than 1.
+   */
+  public GraphFilter withMinWordFrequency(int frequency) {
+    if (frequency < 1) {
+      throw new IllegalArgumentException("Minimum word frequency must be at least 1: " + frequency);
+    }
+    return new GraphFilter(minEdgeWeight, maxOutEdges, frequency);
+  }
+
+  /**
+   * Checks whether a word passes the frequency cutoff.
+   *
+   * @param frequency The number of times the word occurred.
+   * @return true if the word is kept.
+   */
+  boolean keepsWord(int frequency) {
+    return frequency >= minWordFrequency;
+  }
+
+  /**
+   * Selects the out-edges of one word that the filter keeps.
+   *
+   * @param successors The word's out-edges: Map&lt;destinationWord, weight&gt;.
+   * @param keptWords  The words that passed the frequency cutoff.
+   * @return A new, exactly sized map of the kept edges; empty if none are kept.
+   */
+  Map<String, Integer> selectEdges(Map<String, Integer> successors, Set<String> keptWords) {
+    List<Map.Entry<String, Integer>> kept = new ArrayList<>(successors.size());
+    for (Map.Entry<String, Integer> edge : successors.entrySet()) {
+      if (edge.getValue() >= minEdgeWeight && keptWords.contains(edge.getKey())) {
+        kept.add(edge);
+      }
+    }
+    if (kept.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    if (kept.size() > maxOutEdges) {
+      kept.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+          .thenComparing(Map.Entry.comparingByKey()));
+      kept = kept.subList(0, maxOutEdges);
+    }
+
+    // Size the map for its content so the copy carries no spare capacity
+    Map<String, Integer> result = new HashMap<>((int) (kept.size() / 0.75f) + 1);
+    for (Map.Entry<String, Integer> edge : kept) {
+      result.put(edge.getKey(), edge.getValue());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,13 @@
+package software.lab1;
+
+/**
+ * Bulk file formats a {@link WordGraph} can be exported to.
+ */
+public enum GraphFormat {
+  /** One "source TAB destination TAB weight" line per edge. */
+  TSV,
+  /** Graphviz DOT digraph with a weight label per edge. */
+  DOT,
+  /** GraphML XML with an integer "weight" attribute per edge. */
+  GRAPHML
+}
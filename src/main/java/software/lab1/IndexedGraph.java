@@ -0,0 +1,105 @@
+package software.lab1;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable, integer-indexed snapshot of a {@link WordGraph} in compressed sparse row form.
+ * Words are numbered 0..n-1 in lexicographic order. The outgoing edges of node u occupy the
+ * index range [offsets[u], offsets[u + 1]) of {@code targets} and {@code weights}, sorted by
+ * target id. Algorithms that touch every edge work on this form instead of the nested maps.
+ */
+final class IndexedGraph {
+
+  final String[] words;
+  final int[] offsets;
+  final int[] targets;
+  final int[] weights;
+  private final Map<String, Integer> ids;
+
+  /**
+   * Builds the snapshot from the adjacency list of a word graph.
+   *
+   * @param adjList  The adjacency list: Map&lt;sourceWord, Map&lt;destinationWord, weight&gt;&gt;.
+   * @param allWords All words in the graph, including those without outgoing edges.
+   */
+  IndexedGraph(Map<String, Map<String, Integer>> adjList, Set<String> allWords) {
+    words = allWords.toArray(new String[0]);
+    Arrays.sort(words);
+    ids = new HashMap<>(words.length * 2);
+    for (int i = 0; i < words.length; i++) {
+      ids.put(words[i], i);
+    }
+
+    offsets = new int[words.length + 1];
+    for (int u = 0; u < words.length; u++) {
+      offsets[u + 1] = offsets[u]
+          + adjList.getOrDefault(words[u], Collections.emptyMap()).size();
+    }
+    targets = new int[offsets[words.length]];
+    weights = new int[offsets[words.length]];
+
+    long[] packed = new long[0];
+    for (int u = 0; u < words.length; u++) {
+      Map<String, Integer> successors = adjList.getOrDefault(words[u], Collections.emptyMap());
+      int degree = successors.size();
+      if (packed.length < degree) {
+        packed = new long[degree];
+      }
+      // Pack (target, weight) into one long so a single primitive sort orders edges by target
+      int k = 0;
+      for (Map.Entry<String, Integer> edge : successors.entrySet()) {
+        packed[k++] = ((long) ids.get(edge.getKey()) << 32) | edge.getValue();
+      }
+      Arrays.sort(packed, 0, degree);
+      for (int i = 0; i < degree; i++) {
+        targets[offsets[u] + i] = (int) (packed[i] >>> 32);
+        weights[offsets[u] + i] = (int) packed[i];
+      }
+    }
+  }
+
+  /**
+   * Returns the number of nodes.
+   *
+   * @return The number of distinct words.
+   */
+  int size() {
+    return words.length;
+  }
+
+  /**
+   * Returns the number of directed edges.
+   *
+   * @return The number of distinct (source, destination) pairs.
+   */
+  int edgeCount() {
+    return targets.length;
+  }
+
+  /**
+   * Looks up the id of a word.
+   *
+   * @param word The word, exactly as stored in the graph.
+   * @return The node id, or -1 if the word is not in the graph.
+   */
+  int idOf(String word) {
+    Integer id = ids.get(word);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Finds the edge from u to v.
+   *
+   * @param u The source node id.
+   * @param v The destination node id.
+   * @return The index of the edge in {@code targets} and {@code weights}, or -1 if absent.
+   */
+  int edgeIndex(int u, int v) {
+    int index = Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v);
+    return index < 0 ? -1 : index;
+  }
+}
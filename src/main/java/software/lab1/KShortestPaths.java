@@ -0,0 +1,153 @@
+package software.lab1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Lazily enumerates loopless paths between two nodes of an {@link IndexedGraph}
+ * in order of non-decreasing length, using Yen's algorithm.
+ * The first path comes straight from the shortest path tree of one Dijkstra search;
+ * each further path costs one early-terminating spur search per node of the previous path,
+ * and is only computed when the caller asks for it. Each enumeration owns its search,
+ * so enumerations on different threads never share mutable state.
+ */
+final class KShortestPaths implements Iterator<int[]> {
+
+  private final IndexedGraph graph;
+  private final ShortestPathSearch search;
+  private final int target;
+  private final List<Candidate> accepted = new ArrayList<>(); // Paths already returned
+  private final PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+  private final Set<Candidate> seen = new HashSet<>();
+  private boolean[] blockedNodes; // Borrowed from the search on the first spur expansion
+  private boolean[] blockedEdges;
+  private Candidate unexpanded; // Last returned path, until its spur paths are added
+
+  /**
+   * Prepares the enumeration and finds the shortest path.
+   *
+   * @param graph  The graph.
+   * @param source The source node id.
+   * @param target The target node id.
+   */
+  KShortestPaths(IndexedGraph graph, int source, int target) {
+    this.graph = graph;
+    this.search = new ShortestPathSearch(graph);
+    this.target = target;
+
+    search.run(source, target, null, null);
+    if (search.isSettled(target)) {
+      Candidate first = new Candidate(search.pathTo(target), search.distance(target));
+      candidates.add(first);
+      seen.add(first);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (unexpanded != null) {
+      // Deferred from next(), so a caller that stops early never pays for the spur searches
+      addSpurCandidates(unexpanded.nodes);
+      unexpanded = null;
+    }
+    return !candidates.isEmpty();
+  }
+
+  @Override
+  public int[] next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Candidate best = candidates.poll();
+    accepted.add(best);
+    unexpanded = best;
+    return best.nodes.clone();
+  }
+
+  /**
+   * Adds the spur paths of the most recently returned path to the candidates.
+   * Each deviates from it at one node, reusing its prefix as the root path.
+   *
+   * @param previous The most recently returned path.
+   */
+  private void addSpurCandidates(int[] previous) {
+    if (blockedNodes == null) {
+      // Only callers that want a second path pay for the masks
+      blockedNodes = search.blockedNodes();
+      blockedEdges = search.blockedEdges();
+    }
+    int rootCost = 0;
+    for (int i = 0; i < previous.length - 1; i++) {
+      int spurNode = previous[i];
+
+      // Forbid the next edge of every accepted path sharing this root,
+      // and the root nodes themselves, so the spur path is new and loopless
+      for (Candidate path : accepted) {
+        if (path.nodes.length > i + 1
+            && Arrays.equals(path.nodes, 0, i + 1, previous, 0, i + 1)) {
+          blockedEdges[graph.edgeIndex(spurNode, path.nodes[i + 1])] = true;
+        }
+      }
+      for (int j = 0; j < i; j++) {
+        blockedNodes[previous[j]] = true;
+      }
+
+      search.run(spurNode, target, blockedNodes, blockedEdges);
+      if (search.isSettled(target)) {
+        int[] spurPath = search.pathTo(target);
+        int[] nodes = new int[i + spurPath.length];
+        System.arraycopy(previous, 0, nodes, 0, i);
+        System.arraycopy(spurPath, 0, nodes, i, spurPath.length);
+        Candidate candidate = new Candidate(nodes, rootCost + search.distance(target));
+        if (seen.add(candidate)) {
+          candidates.add(candidate);
+        }
+      }
+
+      for (Candidate path : accepted) {
+        if (path.nodes.length > i + 1 && path.nodes[i] == spurNode) {
+          blockedEdges[graph.edgeIndex(spurNode, path.nodes[i + 1])] = false;
+        }
+      }
+      for (int j = 0; j < i; j++) {
+        blockedNodes[previous[j]] = false;
+      }
+      rootCost += graph.weights[graph.edgeIndex(spurNode, previous[i + 1])];
+    }
+  }
+
+  // A path together with its total weight; equality is by node sequence only
+  private static final class Candidate implements Comparable<Candidate> {
+    final int[] nodes;
+    final int cost;
+
+    Candidate(int[] nodes, int cost) {
+      this.nodes = nodes;
+      this.cost = cost;
+    }
+
+    @Override
+    public int compareTo(Candidate other) {
+      if (cost != other.cost) {
+        return Integer.compare(cost, other.cost);
+      }
+      return Arrays.compare(nodes, other.nodes); // Deterministic order among ties
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Candidate && Arrays.equals(nodes, ((Candidate) o).nodes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(nodes);
+    }
+  }
+}
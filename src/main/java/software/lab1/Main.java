@@ -3,6 +3,8 @@ package software.lab1;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.List;
 import java.util.Scanner;
 
@@ -43,6 +45,8 @@ public class Main {
       System.out.println("4. Calculate Shortest Path");
       System.out.println("5. Calculate PageRank");
       System.out.println("6. Random Walk");
+      System.out.println("7. Graph Statistics");
+      System.out.println("8. Export Graph");
       System.out.println("0. Exit");
       System.out.print("Enter your choice: ");
       choice = -1;
@@ -89,6 +93,29 @@ public class Main {
         case 6:
           performRandomWalkInteractive(graph, reader);
           break;
+        case 7:
+          try {
+            Writer statsWriter = new OutputStreamWriter(System.out, System.out.charset());
+            graph.analyzeGraph().exportStats(statsWriter);
+            statsWriter.flush(); // Flush only: closing would close System.out
+          } catch (IOException e) {
+            System.out.println("Failed writing statistics: " + e);
+          }
+          break;
+        case 8:
+          System.out.print("Enter format (tsv, dot, graphml): ");
+          String formatName = scanner.nextLine();
+          System.out.print("Enter output file path: ");
+          String exportPath = scanner.nextLine();
+          try {
+            GraphFormat format = GraphFormat.valueOf(formatName.trim().toUpperCase());
+            if (graph.exportGraph(exportPath, format, true, 0)) {
+              System.out.println("Graph exported to " + exportPath);
+            }
+          } catch (IllegalArgumentException e) {
+            System.out.println("Unknown format: " + formatName);
+          }
+          break;
         case 0:
           System.out.println("Exiting program.");
           break;
@@ -0,0 +1,169 @@
+package software.lab1;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batch shortest-path lengths between every pair of a word subset.
+ * Runs one single-source Dijkstra per source word on a {@link ForkJoinPool};
+ * each search stops once every word of the subset has been settled.
+ * Results are plain ints: no path reconstruction and no string formatting per pair.
+ */
+final class ShortestPathBatch {
+
+  private static final int ROWS_PER_WRITE_BLOCK_PER_THREAD = 16;
+
+  private final IndexedGraph graph;
+  private final ForkJoinPool pool;
+  private final int[] ids; // Node id per requested word, -1 if the word is not in the graph
+  private final boolean[] isTarget;
+  private final int targetCount;
+
+  ShortestPathBatch(IndexedGraph graph, List<String> words, ForkJoinPool pool) {
+    this.graph = graph;
+    this.pool = pool;
+    this.ids = new int[words.size()];
+    this.isTarget = new boolean[graph.size()];
+    int distinct = 0;
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = graph.idOf(words.get(i));
+      if (ids[i] != -1 && !isTarget[ids[i]]) {
+        isTarget[ids[i]] = true;
+        distinct++;
+      }
+    }
+    this.targetCount = distinct;
+  }
+
+  /**
+   * Computes the full distance matrix.
+   *
+   * @return A matrix where entry [i][j] is the length of the shortest path from word i
+   *     to word j, or {@link WordGraph#UNREACHABLE}.
+   */
+  int[][] computeAll() {
+    int[][] rows = new int[ids.length][];
+    pool.invoke(new RowTask(rows, 0, 0, ids.length, threshold(ids.length)));
+    return rows;
+  }
+
+  /**
+   * Streams the distance matrix as tab-separated text: a header line with the words,
+   * then one line per source word. Rows are computed in parallel blocks and written in order,
+   * so memory stays bounded by the block size rather than the whole matrix.
+   *
+   * @param words The words, in the same order they were given to the constructor.
+   * @param out   The destination; it is flushed but not closed.
+   * @throws IOException If writing fails.
+   */
+  void writeAll(List<String> words, Writer out) throws IOException {
+    for (String word : words) {
+      out.write('\t');
+      out.write(word);
+    }
+    out.write('\n');
+
+    int blockSize = Math.max(1, pool.getParallelism() * ROWS_PER_WRITE_BLOCK_PER_THREAD);
+    int[][] block = new int[Math.min(blockSize, ids.length)][];
+    char[] digits = new char[11];
+    for (int start = 0; start < ids.length; start += blockSize) {
+      int end = Math.min(ids.length, start + blockSize);
+      pool.invoke(new RowTask(block, start, start, end, threshold(end - start)));
+      for (int i = start; i < end; i++) {
+        out.write(words.get(i));
+        for (int length : block[i - start]) {
+          out.write('\t');
+          out.write(digits, 0, formatInt(length, digits));
+        }
+        out.write('\n');
+      }
+    }
+    out.flush();
+  }
+
+  private int threshold(int rowCount) {
+    // A few leaves per worker keeps the load balanced without one scratch buffer per row
+    return Math.max(1, rowCount / (pool.getParallelism() * 4));
+  }
+
+  // Fills one row of the matrix from a finished search
+  private void fillRow(int[] row, int source, ShortestPathSearch search) {
+    for (int j = 0; j < ids.length; j++) {
+      if (source == -1 || ids[j] == -1) {
+        row[j] = WordGraph.UNREACHABLE;
+      } else {
+        int d = search.distance(ids[j]);
+        row[j] = d == ShortestPathSearch.INFINITY ? WordGraph.UNREACHABLE : d;
+      }
+    }
+  }
+
+  // Writes the decimal digits of a value into a buffer without creating a String,
+  // returning the number of chars written
+  private static int formatInt(int value, char[] buffer) {
+    if (value < 0) {
+      buffer[0] = '-';
+      return 1 + formatInt(-value, buffer, 1);
+    }
+    return formatInt(value, buffer, 0);
+  }
+
+  private static int formatInt(int value, char[] buffer, int offset) {
+    int length = 1;
+    for (int v = value; v >= 10; v /= 10) {
+      length++;
+    }
+    for (int i = offset + length - 1; i >= offset; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+    return length;
+  }
+
+  /**
+   * Computes the rows [from, to) of the matrix into {@code rows[from - base]} onwards.
+   * Each leaf shares one search, and its scratch arrays, across all of its rows.
+   * Row arrays already present in {@code rows} are reused.
+   */
+  private final class RowTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final int[][] rows;
+    private final int base;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    RowTask(int[][] rows, int base, int from, int to, int threshold) {
+      this.rows = rows;
+      this.base = base;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > threshold) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new RowTask(rows, base, from, mid, threshold),
+            new RowTask(rows, base, mid, to, threshold));
+        return;
+      }
+      ShortestPathSearch search = new ShortestPathSearch(graph);
+      for (int i = from; i < to; i++) {
+        int source = ids[i];
+        if (source != -1) {
+          search.run(source, isTarget, targetCount);
+        }
+        if (rows[i - base] == null) {
+          rows[i - base] = new int[ids.length];
+        }
+        fillRow(rows[i - base], source, search);
+      }
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package software.lab1;
+
+import java.util.Arrays;
+
+/**
+ * Reusable single-source Dijkstra search over an {@link IndexedGraph}.
+ * All state lives in primitive arrays that are allocated once and reset incrementally,
+ * so running many searches with one instance allocates nothing per search.
+ * Instances are not thread-safe; give each worker thread its own.
+ */
+final class ShortestPathSearch {
+
+  static final int INFINITY = Integer.MAX_VALUE;
+
+  private final IndexedGraph graph;
+  private final int[] dist;
+  private final boolean[] settled;
+  private final int[] parent; // Predecessor on the shortest path tree, -1 for the source
+  private final int[] touched; // Nodes whose dist changed, so reset costs O(visited)
+  private final int[] touchedIndex; // Position of each reached node in touched
+  private int touchedCount;
+  private boolean[] blockedNodes; // Scratch masks for callers, allocated on first use
+  private boolean[] blockedEdges;
+  private long[] heap = new long[16]; // Entries pack (distance << 32 | node)
+  private int heapSize;
+
+  ShortestPathSearch(IndexedGraph graph) {
+    this.graph = graph;
+    this.dist = new int[graph.size()];
+    this.settled = new boolean[graph.size()];
+    this.parent = new int[graph.size()];
+    this.touched = new int[graph.size()];
+    this.touchedIndex = new int[graph.size()];
+    Arrays.fill(dist, INFINITY);
+  }
+
+  /**
+   * Runs Dijkstra from a source node.
+   * If {@code targets} is given, the search stops as soon as every target is settled;
+   * distances of nodes that were not settled by then are not final.
+   *
+   * @param source      The source node id.
+   * @param targets     Marks the nodes of interest, or null to search the whole graph.
+   * @param targetCount The number of distinct marked nodes (ignored when targets is null).
+   */
+  void run(int source, boolean[] targets, int targetCount) {
+    search(source, targets, -1, targets == null ? -1 : targetCount, null, null);
+  }
+
+  /**
+   * Runs Dijkstra from a source node until a single target is settled,
+   * optionally skipping some nodes and edges.
+   *
+   * @param source       The source node id.
+   * @param target       The node id to stop at.
+   * @param blockedNodes Nodes the search may not enter, or null.
+   * @param blockedEdges Edges (by index into the graph's edge arrays) it may not use, or null.
+   */
+  void run(int source, int target, boolean[] blockedNodes, boolean[] blockedEdges) {
+    search(source, null, target, 1, blockedNodes, blockedEdges);
+  }
+
+  private void search(int source, boolean[] targets, int target, int remaining,
+                      boolean[] blockedNodes, boolean[] blockedEdges) {
+    reset();
+    relax(source, 0, -1);
+
+    while (heapSize > 0) {
+      long top = poll();
+      int u = (int) top;
+      int d = (int) (top >>> 32);
+      if (settled[u] || d > dist[u]) {
+        continue; // Stale heap entry
+      }
+      settled[u] = true;
+      if ((u == target || (targets != null && targets[u])) && --remaining == 0) {
+        return;
+      }
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        int v = graph.targets[e];
+        if ((blockedEdges != null && blockedEdges[e])
+            || (blockedNodes != null && blockedNodes[v])) {
+          continue;
+        }
+        long newDist = (long) d + graph.weights[e];
+        if (!settled[v] && newDist < dist[v]) {
+          relax(v, (int) newDist, u);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the distance found by the last search.
+   *
+   * @param node The node id.
+   * @return The distance from the source, or {@link #INFINITY} if the node was not reached.
+   */
+  int distance(int node) {
+    return dist[node];
+  }
+
+  /**
+   * Checks whether the last search settled a node, i.e. its distance is final.
+   *
+   * @param node The node id.
+   * @return true if the node was settled.
+   */
+  boolean isSettled(int node) {
+    return settled[node];
+  }
+
+  /**
+   * Returns the number of nodes the last search reached.
+   *
+   * @return The number of reached nodes.
+   */
+  int reachedCount() {
+    return touchedCount;
+  }
+
+  /**
+   * Returns one of the nodes the last search reached.
+   *
+   * @param i An index in [0, reachedCount()).
+   * @return The node id.
+   */
+  int reached(int i) {
+    return touched[i];
+  }
+
+  /**
+   * Returns the position of a reached node in the order nodes were reached,
+   * so callers can size per-search data by {@link #reachedCount()} instead of the graph.
+   *
+   * @param node A node reached by the last search.
+   * @return The index i such that {@code reached(i) == node}; the source is always 0.
+   */
+  int reachedIndex(int node) {
+    return touchedIndex[node];
+  }
+
+  /**
+   * Returns a reusable node mask for {@link #run(int, int, boolean[], boolean[])}.
+   * Callers must clear every entry they set before the next caller uses it.
+   *
+   * @return An all-false array indexed by node id.
+   */
+  boolean[] blockedNodes() {
+    if (blockedNodes == null) {
+      blockedNodes = new boolean[graph.size()];
+    }
+    return blockedNodes;
+  }
+
+  /**
+   * Returns a reusable edge mask for {@link #run(int, int, boolean[], boolean[])}.
+   * Callers must clear every entry they set before the next caller uses it.
+   *
+   * @return An all-false array indexed by edge.
+   */
+  boolean[] blockedEdges() {
+    if (blockedEdges == null) {
+      blockedEdges = new boolean[graph.edgeCount()];
+    }
+    return blockedEdges;
+  }
+
+  /**
+   * Reconstructs the shortest path found by the last search.
+   *
+   * @param target A node reached by the last search.
+   * @return The node ids from the source to the target.
+   */
+  int[] pathTo(int target) {
+    int length = 0;
+    for (int v = target; v != -1; v = parent[v]) {
+      length++;
+    }
+    int[] path = new int[length];
+    for (int v = target; v != -1; v = parent[v]) {
+      path[--length] = v;
+    }
+    return path;
+  }
+
+  private void reset() {
+    for (int i = 0; i < touchedCount; i++) {
+      dist[touched[i]] = INFINITY;
+      settled[touched[i]] = false;
+    }
+    touchedCount = 0;
+    heapSize = 0;
+  }
+
+  private void relax(int node, int distance, int from) {
+    if (dist[node] == INFINITY) {
+      touchedIndex[node] = touchedCount;
+      touched[touchedCount++] = node;
+    }
+    dist[node] = distance;
+    parent[node] = from;
+    push(((long) distance << 32) | node);
+  }
+
+  private void push(long entry) {
+    if (heapSize == heap.length) {
+      heap = Arrays.copyOf(heap, heapSize * 2);
+    }
+    int i = heapSize++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (heap[parent] <= entry) {
+        break;
+      }
+      heap[i] = heap[parent];
+      i = parent;
+    }
+    heap[i] = entry;
+  }
+
+  private long poll() {
+    long top = heap[0];
+    long last = heap[--heapSize];
+    int i = 0;
+    int half = heapSize >>> 1;
+    while (i < half) {
+      int child = 2 * i + 1;
+      if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+        child++;
+      }
+      if (last <= heap[child]) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = last;
+    return top;
+  }
+}
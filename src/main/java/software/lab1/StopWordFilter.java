@@ -0,0 +1,48 @@
+package software.lab1;
+
+import java.util.Collection;
+
+/**
+ * A tokenizer stage that drops stop words from the output of another tokenizer.
+ * Stop words are matched against the normalized token buffer directly,
+ * so filtering does not allocate.
+ */
+public class StopWordFilter implements Tokenizer {
+
+  private final Tokenizer delegate;
+  private final WordInterner stopWords; // Read-only after construction, so copies share it
+
+  /**
+   * Constructs a filter.
+   *
+   * @param delegate  The tokenizer whose tokens are filtered.
+   * @param stopWords The words to drop, in the normalized form the delegate produces
+   *                  (lower case for the default tokenizers).
+   */
+  public StopWordFilter(Tokenizer delegate, Collection<String> stopWords) {
+    this.delegate = delegate;
+    this.stopWords = new WordInterner();
+    for (String word : stopWords) {
+      this.stopWords.add(word);
+    }
+  }
+
+  private StopWordFilter(Tokenizer delegate, WordInterner stopWords) {
+    this.delegate = delegate;
+    this.stopWords = stopWords;
+  }
+
+  @Override
+  public Tokenizer copy() {
+    return new StopWordFilter(delegate.copy(), stopWords);
+  }
+
+  @Override
+  public void tokenize(CharSequence text, TokenSink sink) {
+    delegate.tokenize(text, (token, length, start, end) -> {
+      if (stopWords.find(token, length) == null) {
+        sink.accept(token, length, start, end);
+      }
+    });
+  }
+}
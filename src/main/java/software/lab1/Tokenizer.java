@@ -0,0 +1,43 @@
+package software.lab1;
+
+/**
+ * Splits raw text into normalized word tokens.
+ * A {@link WordGraph} uses one tokenizer for both building the graph and parsing queries,
+ * so the two can never disagree about what a word is.
+ * Implementations may reuse an internal buffer between tokens and are not thread-safe.
+ */
+public interface Tokenizer {
+
+  /**
+   * Splits text into tokens and passes each one to the sink, in order.
+   *
+   * @param text The text to split.
+   * @param sink Receives every token.
+   */
+  void tokenize(CharSequence text, TokenSink sink);
+
+  /**
+   * Returns a new tokenizer with the same configuration but its own buffers,
+   * for use by a graph that may be queried on a different thread.
+   *
+   * @return An independent tokenizer producing the same tokens.
+   */
+  Tokenizer copy();
+
+  /**
+   * Receives tokens from a {@link Tokenizer} without requiring a String per token.
+   */
+  @FunctionalInterface
+  interface TokenSink {
+
+    /**
+     * Accepts one token.
+     *
+     * @param token  The normalized token in token[0..length); only valid during this call.
+     * @param length The length of the normalized token.
+     * @param start  The index in the source text where the token starts.
+     * @param end    The index in the source text just after the token.
+     */
+    void accept(char[] token, int length, int start, int end);
+  }
+}
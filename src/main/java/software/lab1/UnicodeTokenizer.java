@@ -0,0 +1,65 @@
+package software.lab1;
+
+import java.util.Arrays;
+
+/**
+ * A tokenizer that accepts letters from any script: a token is a run of code points for
+ * which {@link Character#isLetter(int)} holds. Unlike {@link AsciiTokenizer}, words such as
+ * "café" or "naïve" stay whole instead of being split at the non-ASCII letter.
+ * Tokens are written into a reusable buffer, so tokenizing does not allocate per token.
+ */
+public class UnicodeTokenizer implements Tokenizer {
+
+  private final boolean foldCase;
+  private char[] buffer = new char[32];
+
+  /**
+   * Constructs a tokenizer that folds tokens to lower case.
+   */
+  public UnicodeTokenizer() {
+    this(true);
+  }
+
+  /**
+   * Constructs a tokenizer.
+   *
+   * @param foldCase Whether to convert tokens to lower case, code point by code point.
+   */
+  public UnicodeTokenizer(boolean foldCase) {
+    this.foldCase = foldCase;
+  }
+
+  @Override
+  public Tokenizer copy() {
+    return new UnicodeTokenizer(foldCase);
+  }
+
+  @Override
+  public void tokenize(CharSequence text, TokenSink sink) {
+    final int n = text.length();
+    int length = 0;
+    int start = 0;
+    int i = 0;
+    while (i < n) {
+      int codePoint = Character.codePointAt(text, i);
+      int next = i + Character.charCount(codePoint);
+      if (Character.isLetter(codePoint)) {
+        if (length == 0) {
+          start = i;
+        }
+        if (length + 2 > buffer.length) {
+          buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        length += Character.toChars(
+            foldCase ? Character.toLowerCase(codePoint) : codePoint, buffer, length);
+      } else if (length > 0) {
+        sink.accept(buffer, length, start, i);
+        length = 0;
+      }
+      i = next;
+    }
+    if (length > 0) {
+      sink.accept(buffer, length, start, n);
+    }
+  }
+}
@@ -1,86 +1,175 @@
 package software.lab1;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Random;
-import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a directed graph where nodes are words and edges represent word sequences.
  * Edges have weights based on their frequency of appearance in the input text.
  * This class provides functionalities to build the graph, query bridge words,
  * generate new text, calculate the shortest paths, compute PageRank, and perform random walks.
+ * Once built, the graph may be queried from several threads at once;
+ * building or otherwise modifying it must not overlap with any other call.
  */
 public class WordGraph {
 
+  /** Path length reported by the batch APIs when no path exists. */
+  public static final int UNREACHABLE = -1;
+
+  private static final int EXPORT_BUFFER_SIZE = 1 << 16;
+
   // Adjacency list representation: Map<sourceWord, Map<destinationWord, weight>>
   private final Map<String, Map<String, Integer>> adjList;
   private final Set<String> allWordsInGraph; // To quickly check if a word exists in the graph
+  private final Map<String, Integer> wordCounts; // Occurrences of each word in the source text
+  private final Tokenizer tokenizer; // Used only while building the graph
+  // Copies of the same tokenizer, so queries normalize exactly like ingest
+  // but concurrent queries never share a token buffer
+  private final ThreadLocal<Tokenizer> queryTokenizer;
+  private final WordInterner vocabulary; // Canonical String per token, probed without allocating
+  // Derived views, built lazily under derivedViewsLock and dropped whenever the graph changes;
+  // volatile so concurrent readers see either null or a fully built view
+  private final Object derivedViewsLock = new Object();
+  private volatile IndexedGraph indexedGraph;
+  private volatile GraphAnalytics analytics;
 
   /**
    * Constructs an empty WordGraph.
    * Initializes the adjacency list and the set of all words in the graph.
+   * Text is split into lower-case runs of ASCII letters.
    */
   public WordGraph() {
+    this(new AsciiTokenizer());
+  }
+
+  /**
+   * Constructs an empty WordGraph that uses the given tokenizer both to build the graph
+   * and to normalize words in queries.
+   *
+   * @param tokenizer The tokenizer; it is used directly while building the graph,
+   *     and each querying thread works on its own {@link Tokenizer#copy()}.
+   */
+  public WordGraph(Tokenizer tokenizer) {
+    this.tokenizer = tokenizer;
+    this.queryTokenizer = ThreadLocal.withInitial(tokenizer::copy);
     adjList = new HashMap<>();
     allWordsInGraph = new HashSet<>();
+    wordCounts = new HashMap<>();
+    vocabulary = new WordInterner();
   }
 
   /**
-   * Reads text from a file, cleans it, and builds the directed graph.
+   * Reads UTF-8 text from a file, splits it into words with the graph's tokenizer,
+   * and builds the directed graph.
    * This method fulfills part of Functional Requirement 1.
    *
    * @param filePath The path to the input text file.
    * @return true if the graph was built successfully, false otherwise.
    */
   public boolean buildGraphFromFile(String filePath) {
-    try {
-      File file = new File(filePath);
-      Scanner scanner = new Scanner(file);
-      StringBuilder rawText = new StringBuilder();
-      while (scanner.hasNextLine()) {
-        rawText.append(scanner.nextLine()).append(" "); // Treat newline as space
-      }
-      scanner.close();
-
-      // Clean the text: replace punctuation with spaces, ignore non-alphabetic chars
-      // Convert to lowercase for case-insensitivity
-      String cleanedText = rawText.toString().replaceAll("[^a-zA-Z]", " ").toLowerCase();
-      String[] words = cleanedText.trim().split("\\s+"); // Split by one or more spaces
-
-      if (words.length < 2) {
-        System.out.println("Not enough words to build a graph.");
-        return false;
+    final String[] previous = {null}; // Last word read, carried across lines
+    final int[] wordCount = {0};
+    Tokenizer.TokenSink sink = (token, length, start, end) -> {
+      // Reuses the stored String for words seen before, so only new words allocate
+      String word = vocabulary.intern(token, length);
+      if (previous[0] != null) {
+        if (wordCount[0] == 1) {
+          // The first word is only counted once a second one proves the file is usable
+          wordCounts.merge(previous[0], 1, Integer::sum);
+        }
+        wordCounts.merge(word, 1, Integer::sum);
+        allWordsInGraph.add(previous[0]);
+        allWordsInGraph.add(word);
+        adjList.computeIfAbsent(previous[0], k -> new HashMap<>())
+            .merge(word, 1, Integer::sum); // Increment weight if edge exists
       }
-
-      // Add all unique words to the set
-      allWordsInGraph.addAll(Arrays.asList(words));
-
-      // Build the graph
-      for (int i = 0; i < words.length - 1; i++) {
-        String word1 = words[i];
-        String word2 = words[i + 1];
-
-        adjList.computeIfAbsent(word1, k -> new HashMap<>())
-            .merge(word2, 1, Integer::sum); // Increment weight if edge exists
+      previous[0] = word;
+      wordCount[0]++;
+    };
+
+    try (BufferedReader reader = new BufferedReader(
+        new FileReader(filePath, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        tokenizer.tokenize(line, sink); // A newline separates words like any other non-letter
       }
-      return true;
-
     } catch (FileNotFoundException e) {
       System.err.println("File not found: " + filePath);
       return false;
+    } catch (IOException e) {
+      System.err.println("Failed reading file: " + filePath);
+      invalidateDerivedViews(); // Edges read before the failure are kept
+      return false;
     }
+
+    if (wordCount[0] < 2) {
+      System.out.println("Not enough words to build a graph.");
+      return false;
+    }
+    invalidateDerivedViews();
+    return true;
+  }
+
+  /**
+   * Creates a filtered copy of this graph, for example without low-weight noise edges.
+   * The copy is a full WordGraph with its own copy of this graph's tokenizer, so every query
+   * method runs against it unchanged, gives exact results on the retained edges, and the copy
+   * may be queried on a different thread from this graph.
+   * Words dropped by the frequency cutoff disappear from the copy; words that only lose
+   * edges stay in it.
+   *
+   * @param filter Which words and edges to keep.
+   * @return A new graph holding only the retained words and edges.
+   */
+  public WordGraph filtered(GraphFilter filter) {
+    WordGraph copy = new WordGraph(tokenizer.copy());
+    for (String word : allWordsInGraph) {
+      int frequency = wordCounts.getOrDefault(word, 0);
+      if (filter.keepsWord(frequency)) {
+        copy.allWordsInGraph.add(word);
+        copy.vocabulary.add(word);
+        copy.wordCounts.put(word, frequency);
+      }
+    }
+    for (Map.Entry<String, Map<String, Integer>> entry : adjList.entrySet()) {
+      if (copy.allWordsInGraph.contains(entry.getKey())) {
+        Map<String, Integer> edges = filter.selectEdges(entry.getValue(), copy.allWordsInGraph);
+        if (!edges.isEmpty()) {
+          copy.adjList.put(entry.getKey(), edges);
+        }
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Returns how often a word occurred in the text the graph was built from.
+   *
+   * @param word The word; it is normalized like the graph.
+   * @return The number of occurrences, or 0 if the word is not in the graph.
+   */
+  public int wordFrequency(String word) {
+    return wordCounts.getOrDefault(normalizeWord(word), 0);
   }
 
   /**
@@ -93,16 +182,65 @@ public class WordGraph {
       return;
     }
 
-    System.out.println("Directed Graph Representation:");
-    for (Map.Entry<String, Map<String, Integer>> entry : adjList.entrySet()) {
-      String sourceWord = entry.getKey();
-      Map<String, Integer> destinations = entry.getValue();
-      System.out.print(sourceWord + " -> ");
-      List<String> edges = new ArrayList<>();
-      for (Map.Entry<String, Integer> destEntry : destinations.entrySet()) {
-        edges.add(destEntry.getKey() + " (weight: " + destEntry.getValue() + ")");
+    // Write through one large buffer instead of a print call and a String list per node
+    Writer out = new BufferedWriter(
+        new OutputStreamWriter(System.out, System.out.charset()), EXPORT_BUFFER_SIZE);
+    try {
+      out.write("Directed Graph Representation:");
+      out.write(System.lineSeparator());
+      for (Map.Entry<String, Map<String, Integer>> entry : adjList.entrySet()) {
+        out.write(entry.getKey());
+        out.write(" -> ");
+        String separator = "";
+        for (Map.Entry<String, Integer> destEntry : entry.getValue().entrySet()) {
+          out.write(separator);
+          out.write(destEntry.getKey());
+          out.write(" (weight: ");
+          out.write(Integer.toString(destEntry.getValue()));
+          out.write(")");
+          separator = ", ";
+        }
+        out.write(System.lineSeparator());
       }
-      System.out.println(String.join(", ", edges));
+      out.flush(); // Flush only: closing would close System.out
+    } catch (IOException e) {
+      System.err.println("Failed printing graph: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Exports the graph in a bulk format for other tools, streaming it edge by edge.
+   *
+   * @param out       The destination; it should be buffered, and is flushed but not closed.
+   * @param format    The output format.
+   * @param sorted    Whether to write nodes and edges in lexicographic order;
+   *                  this costs one sorted copy of the words.
+   * @param minWeight Edges with a smaller weight are left out.
+   * @throws IOException If writing fails.
+   */
+  public void exportGraph(Writer out, GraphFormat format, boolean sorted, int minWeight)
+      throws IOException {
+    new GraphExporter(adjList, allWordsInGraph, sorted, minWeight).write(out, format);
+    out.flush();
+  }
+
+  /**
+   * Exports the graph to a UTF-8 file in a bulk format.
+   *
+   * @param filePath  The path of the output file.
+   * @param format    The output format.
+   * @param sorted    Whether to write nodes and edges in lexicographic order.
+   * @param minWeight Edges with a smaller weight are left out.
+   * @return true if the file was written successfully, false otherwise.
+   */
+  public boolean exportGraph(String filePath, GraphFormat format, boolean sorted, int minWeight) {
+    try (Writer out = new BufferedWriter(
+        new FileWriter(filePath, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+      exportGraph(out, format, sorted, minWeight);
+      return true;
+    } catch (IOException e) {
+      System.err.println("Failed writing file: " + filePath);
+      return false;
     }
   }
 
@@ -115,8 +253,8 @@ public class WordGraph {
    * @return A string containing the bridge words or an appropriate message.
    */
   public String queryBridgeWords(String word1, String word2) {
-    word1 = word1.toLowerCase();
-    word2 = word2.toLowerCase();
+    word1 = normalizeWord(word1);
+    word2 = normalizeWord(word2);
 
     if (!allWordsInGraph.contains(word1) || !allWordsInGraph.contains(word2)) {
       // Check if word1 or word2 is not in graph
@@ -176,26 +314,30 @@ public class WordGraph {
    * @return The new text with bridge words inserted.
    */
   public String generateNewText(String inputText) {
-    String cleanedInput = inputText.replaceAll("[^a-zA-Z]", " ");
-    String[] words = cleanedInput.trim().split("\\s+");
-
-    if (words.length <= 1) {
+    List<String> words = new ArrayList<>(); // Words as typed, used in the output
+    List<String> keys = new ArrayList<>(); // Normalized words, null if never seen in the graph
+    queryTokenizer.get().tokenize(inputText, (token, length, start, end) -> {
+      words.add(inputText.substring(start, end));
+      keys.add(vocabulary.find(token, length));
+    });
+
+    if (words.size() <= 1) {
       return inputText; // No pairs to insert bridge words
     }
 
     StringBuilder newText = new StringBuilder();
     Random rand = new Random();
 
-    for (int i = 0; i < words.length - 1; i++) {
-      String word1 = words[i];
-      String word2 = words[i + 1];
-      String word1Lower = word1.toLowerCase();
-      String word2Lower = word2.toLowerCase();
+    for (int i = 0; i < words.size() - 1; i++) {
+      String word1 = words.get(i);
+      String word1Lower = keys.get(i);
+      String word2Lower = keys.get(i + 1);
       newText.append(word1);
 
       // Find bridge words
       List<String> bridgeWords = new ArrayList<>();
-      if (allWordsInGraph.contains(word1Lower) && allWordsInGraph.contains(word2Lower)) {
+      if (word1Lower != null && word2Lower != null
+          && allWordsInGraph.contains(word1Lower) && allWordsInGraph.contains(word2Lower)) {
         Map<String, Integer> word1Successors =
             adjList.getOrDefault(word1Lower, Collections.emptyMap());
         for (String bridgeCandidate : word1Successors.keySet()) {
@@ -214,7 +356,7 @@ public class WordGraph {
       }
       newText.append(" "); // Add space after the current word (and bridge word if inserted)
     }
-    newText.append(words[words.length - 1]); // Append the last word
+    newText.append(words.get(words.size() - 1)); // Append the last word
 
     return newText.toString().trim();
   }
@@ -228,8 +370,8 @@ public class WordGraph {
    * @return A string representing the shortest path and its length, or an appropriate message.
    */
   public String calcShortestPath(String word1, String word2) {
-    word1 = word1.toLowerCase();
-    word2 = word2.toLowerCase();
+    word1 = normalizeWord(word1);
+    word2 = normalizeWord(word2);
 
     if (!allWordsInGraph.contains(word1) || !allWordsInGraph.contains(word2)) {
       // Not explicitly in source, but implied by need for graph nodes
@@ -241,6 +383,11 @@ public class WordGraph {
           + word1 + " (length: 0)";
     }
 
+    // Reject pairs the component structure already proves unreachable, without a search
+    if (!analyzeGraph().mayReach(word1, word2)) {
+      return "\"" + word1 + "\" and \"" + word2 + "\" are unreachable.";
+    }
+
     Map<String, Integer> distances = new HashMap<>();
     final Map<String, String> predecessors = new HashMap<>();
     PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingInt(node -> node.distance));
@@ -289,6 +436,162 @@ public class WordGraph {
     }
   }
 
+  /**
+   * Lazily enumerates every shortest path between two words, including ties that
+   * calcShortestPath hides by keeping a single predecessor per word.
+   *
+   * @param word1 The starting word.
+   * @param word2 The ending word.
+   * @return An iterator over the paths, each a list of words from word1 to word2;
+   *     empty if either word is missing or word2 is unreachable.
+   */
+  public Iterator<List<String>> allShortestPaths(String word1, String word2) {
+    word1 = normalizeWord(word1);
+    word2 = normalizeWord(word2);
+    if (!analyzeGraph().mayReach(word1, word2)) {
+      return Collections.emptyIterator();
+    }
+    IndexedGraph graph = indexedGraph();
+    return toWordPaths(new EqualShortestPaths(graph,
+        graph.idOf(word1), graph.idOf(word2)), graph);
+  }
+
+  /**
+   * Lazily enumerates loopless paths between two words in order of non-decreasing length
+   * (Yen's algorithm). Take the first k elements for the k shortest paths;
+   * each further path is only computed when requested.
+   *
+   * @param word1 The starting word.
+   * @param word2 The ending word.
+   * @return An iterator over the paths, each a list of words from word1 to word2;
+   *     empty if either word is missing or word2 is unreachable.
+   */
+  public Iterator<List<String>> kShortestPaths(String word1, String word2) {
+    word1 = normalizeWord(word1);
+    word2 = normalizeWord(word2);
+    if (!analyzeGraph().mayReach(word1, word2)) {
+      return Collections.emptyIterator();
+    }
+    IndexedGraph graph = indexedGraph();
+    return toWordPaths(new KShortestPaths(graph,
+        graph.idOf(word1), graph.idOf(word2)), graph);
+  }
+
+  /**
+   * Calculates up to k shortest loopless paths between two words.
+   *
+   * @param word1 The starting word.
+   * @param word2 The ending word.
+   * @param k     The maximum number of paths to return.
+   * @return The paths in order of non-decreasing length; fewer than k if no more exist.
+   */
+  public List<List<String>> calcKShortestPaths(String word1, String word2, int k) {
+    List<List<String>> paths = new ArrayList<>();
+    Iterator<List<String>> iterator = kShortestPaths(word1, word2);
+    while (paths.size() < k && iterator.hasNext()) {
+      paths.add(iterator.next());
+    }
+    return paths;
+  }
+
+  /**
+   * Normalizes a query word with the same tokenizer used to build the graph.
+   *
+   * @param word The word as typed.
+   * @return The normalized word, or the input unchanged if it is not exactly one token.
+   */
+  private String normalizeWord(String word) {
+    final String[] normalized = {null};
+    final int[] tokenCount = {0};
+    queryTokenizer.get().tokenize(word, (token, length, start, end) -> {
+      if (tokenCount[0]++ == 0) {
+        String stored = vocabulary.find(token, length);
+        normalized[0] = stored != null ? stored : new String(token, 0, length);
+      }
+    });
+    return tokenCount[0] == 1 ? normalized[0] : word;
+  }
+
+  // Maps node id paths to word lists one at a time, keeping the enumeration lazy
+  private static Iterator<List<String>> toWordPaths(Iterator<int[]> paths, IndexedGraph graph) {
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return paths.hasNext();
+      }
+
+      @Override
+      public List<String> next() {
+        int[] path = paths.next();
+        List<String> words = new ArrayList<>(path.length);
+        for (int node : path) {
+          words.add(graph.words[node]);
+        }
+        return words;
+      }
+    };
+  }
+
+  /**
+   * Calculates the shortest path lengths between every pair of the given words,
+   * running one search per source word in parallel on the common ForkJoinPool.
+   *
+   * @param words The words, normalized like the graph; unknown words are unreachable.
+   * @return A matrix where entry [i][j] is the length of the shortest path from words[i]
+   *     to words[j], or {@link #UNREACHABLE}.
+   */
+  public int[][] calcShortestPathLengths(List<String> words) {
+    return calcShortestPathLengths(words, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Calculates the shortest path lengths between every pair of the given words,
+   * running one search per source word in parallel on the given pool.
+   *
+   * @param words The words, normalized like the graph; unknown words are unreachable.
+   * @param pool  The pool to run the searches on.
+   * @return A matrix where entry [i][j] is the length of the shortest path from words[i]
+   *     to words[j], or {@link #UNREACHABLE}.
+   */
+  public int[][] calcShortestPathLengths(List<String> words, ForkJoinPool pool) {
+    List<String> normalizedWords = words.stream().map(this::normalizeWord).toList();
+    return new ShortestPathBatch(indexedGraph(), normalizedWords, pool).computeAll();
+  }
+
+  /**
+   * Streams the shortest path lengths between every pair of the given words as a
+   * tab-separated matrix: a header line of words, then one line per source word.
+   * Only a block of rows is held in memory at a time.
+   *
+   * @param words The words, normalized like the graph; unknown words are unreachable.
+   * @param out   The destination; it is flushed but not closed.
+   * @param pool  The pool to run the searches on.
+   * @throws IOException If writing fails.
+   */
+  public void writeShortestPathLengths(List<String> words, Writer out, ForkJoinPool pool)
+      throws IOException {
+    List<String> normalizedWords = words.stream().map(this::normalizeWord).toList();
+    new ShortestPathBatch(indexedGraph(), normalizedWords, pool).writeAll(normalizedWords, out);
+  }
+
+  /**
+   * Writes the shortest path length matrix of the given words to a UTF-8 file.
+   *
+   * @param words    The words, normalized like the graph; unknown words are unreachable.
+   * @param filePath The path of the output file.
+   * @return true if the file was written successfully, false otherwise.
+   */
+  public boolean writeShortestPathLengths(List<String> words, String filePath) {
+    try (Writer out = new BufferedWriter(
+        new FileWriter(filePath, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE)) {
+      writeShortestPathLengths(words, out, ForkJoinPool.commonPool());
+      return true;
+    } catch (IOException e) {
+      System.err.println("Failed writing file: " + filePath);
+      return false;
+    }
+  }
+
   /**
    * Calculates the PageRank for a given word, using the formula
    * PR(u) = (1-d)/N + d * SUM(PR(v) / L(v)),
@@ -307,7 +610,7 @@ public class WordGraph {
       return -1.0;
     }
 
-    word = word.toLowerCase();
+    word = normalizeWord(word);
 
     if (n == 0 || !allWordsInGraph.contains(word)) {
       return -1.0;
@@ -460,6 +763,76 @@ public class WordGraph {
     return traversedPath;
   }
 
+  /**
+   * Returns graph-wide analytics: strongly connected components, the condensation DAG
+   * and degree histograms. The result is computed once and cached until the graph changes.
+   *
+   * @return The analytics for the current graph.
+   */
+  public GraphAnalytics analyzeGraph() {
+    GraphAnalytics result = analytics;
+    if (result == null) {
+      synchronized (derivedViewsLock) {
+        result = analytics;
+        if (result == null) {
+          result = new GraphAnalytics(indexedGraph());
+          analytics = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the strongly connected component a word belongs to.
+   * Component ids are in reverse topological order of the condensation DAG.
+   *
+   * @param word The word; it is normalized like the graph.
+   * @return The component id, or -1 if the word is not in the graph.
+   */
+  public int componentOf(String word) {
+    return analyzeGraph().componentOf(normalizeWord(word));
+  }
+
+  /**
+   * Checks in O(1) whether word2 might be reachable from word1.
+   * A {@code false} result is exact: no path exists. A {@code true} result is exact only
+   * when both words share a component.
+   *
+   * @param word1 The starting word; it is normalized like the graph.
+   * @param word2 The ending word; it is normalized like the graph.
+   * @return false if word2 is definitely unreachable from word1 or either word is missing.
+   */
+  public boolean mayReach(String word1, String word2) {
+    return analyzeGraph().mayReach(normalizeWord(word1), normalizeWord(word2));
+  }
+
+  /**
+   * Returns the integer-indexed snapshot of the graph, building it on first use.
+   *
+   * @return The snapshot for the current graph.
+   */
+  IndexedGraph indexedGraph() {
+    IndexedGraph result = indexedGraph;
+    if (result == null) {
+      synchronized (derivedViewsLock) {
+        result = indexedGraph;
+        if (result == null) {
+          result = new IndexedGraph(adjList, allWordsInGraph);
+          indexedGraph = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private void invalidateDerivedViews() {
+    synchronized (derivedViewsLock) {
+      indexedGraph = null;
+      analytics = null;
+    }
+  }
+
   // Helper class for Dijkstra's algorithm
   private static class Node {
     String word;
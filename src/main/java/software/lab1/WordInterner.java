@@ -0,0 +1,109 @@
+package software.lab1;
+
+/**
+ * An open-addressing set of words that can be probed with a char buffer.
+ * Looking up a token that is already present returns the stored String instance,
+ * so repeated words cost no allocation. Slots are hashed with {@link String#hashCode()},
+ * which Strings cache, so adding existing Strings is cheap too.
+ */
+final class WordInterner {
+
+  private String[] table = new String[64];
+  private int size;
+
+  /**
+   * Finds the stored word equal to a token.
+   *
+   * @param chars  The token buffer.
+   * @param length The token length.
+   * @return The stored word, or null if absent.
+   */
+  String find(char[] chars, int length) {
+    int mask = table.length - 1;
+    for (int i = spread(hash(chars, length)) & mask; table[i] != null; i = (i + 1) & mask) {
+      if (matches(table[i], chars, length)) {
+        return table[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the stored word equal to a token, adding a new String if it is absent.
+   *
+   * @param chars  The token buffer.
+   * @param length The token length.
+   * @return The canonical String for the token.
+   */
+  String intern(char[] chars, int length) {
+    String word = find(chars, length);
+    if (word == null) {
+      word = new String(chars, 0, length);
+      insert(word);
+    }
+    return word;
+  }
+
+  /**
+   * Adds a word if no equal word is stored yet.
+   *
+   * @param word The word.
+   */
+  void add(String word) {
+    int mask = table.length - 1;
+    for (int i = spread(word.hashCode()) & mask; table[i] != null; i = (i + 1) & mask) {
+      if (table[i].equals(word)) {
+        return;
+      }
+    }
+    insert(word);
+  }
+
+  private void insert(String word) {
+    if (2 * (size + 1) > table.length) {
+      String[] old = table;
+      table = new String[old.length * 2];
+      for (String w : old) {
+        if (w != null) {
+          place(w);
+        }
+      }
+    }
+    place(word);
+    size++;
+  }
+
+  private void place(String word) {
+    int mask = table.length - 1;
+    int i = spread(word.hashCode()) & mask;
+    while (table[i] != null) {
+      i = (i + 1) & mask;
+    }
+    table[i] = word;
+  }
+
+  // Same formula as String.hashCode(), so stored words never need their hash recomputed
+  private static int hash(char[] chars, int length) {
+    int h = 0;
+    for (int i = 0; i < length; i++) {
+      h = 31 * h + chars[i];
+    }
+    return h;
+  }
+
+  private static int spread(int h) {
+    return h ^ (h >>> 16);
+  }
+
+  private static boolean matches(String word, char[] chars, int length) {
+    if (word.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (word.charAt(i) != chars[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -4,10 +4,17 @@ import org.junit.jupiter.api.*;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolutionException;
@@ -134,3 +141,374 @@ class WordGraphQueryBridgeWordsTest {
     assertThrows(NullPointerException.class, () -> wordGraph.queryBridgeWords("seek", null));
   }
 }
+
+// WordGraphAnalyticsTest.java
+class WordGraphAnalyticsTest {
+  private WordGraph wordGraph;
+  private Path tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    wordGraph = new WordGraph();
+    // Two cycles joined by one edge: {a, b, c} -> {d, e}
+    tempFile = Files.createTempFile("analytics_graph", ".txt");
+    Files.writeString(tempFile, "a b c a d e d");
+    wordGraph.buildGraphFromFile(tempFile.toString());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  @DisplayName("TC-GA-001: 强连通分量划分")
+  void testAnalyzeGraph_Components() {
+    GraphAnalytics analytics = wordGraph.analyzeGraph();
+    assertEquals(5, analytics.nodeCount());
+    assertEquals(6, analytics.edgeCount());
+    assertEquals(2, analytics.componentCount());
+    assertEquals(analytics.componentOf("a"), analytics.componentOf("c"));
+    assertEquals(analytics.componentOf("d"), analytics.componentOf("e"));
+    assertNotEquals(analytics.componentOf("a"), analytics.componentOf("d"));
+    assertEquals(-1, analytics.componentOf("unknown"));
+    assertEquals(1, analytics.condensationEdgeCount());
+    assertArrayEquals(new int[] {analytics.componentOf("d")},
+        analytics.condensationSuccessors(analytics.componentOf("a")));
+  }
+
+  @Test
+  @DisplayName("TC-GA-002: 可达性快速判定")
+  void testAnalyzeGraph_MayReach() {
+    GraphAnalytics analytics = wordGraph.analyzeGraph();
+    assertTrue(analytics.mayReach("a", "e"));
+    assertTrue(analytics.mayReach("e", "d"));
+    assertFalse(analytics.mayReach("d", "a"));
+    // The WordGraph wrappers normalize their input like every other query
+    assertTrue(wordGraph.mayReach("A", "E!"));
+    assertEquals(analytics.componentOf("d"), wordGraph.componentOf("D"));
+    assertEquals("\"e\" and \"b\" are unreachable.", wordGraph.calcShortestPath("e", "b"));
+  }
+
+  @Test
+  @DisplayName("TC-GA-003: 出入度分布")
+  void testAnalyzeGraph_DegreeHistograms() {
+    GraphAnalytics analytics = wordGraph.analyzeGraph();
+    // a has two successors (b, d); d has two predecessors (a, e)
+    assertArrayEquals(new int[] {0, 4, 1}, analytics.outDegreeHistogram());
+    assertArrayEquals(new int[] {0, 4, 1}, analytics.inDegreeHistogram());
+  }
+
+  @Test
+  @DisplayName("TC-GA-004: 深链不会栈溢出")
+  void testAnalyzeGraph_DeepChain() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 200_000; i++) {
+      // Encode i in letters so every word is distinct
+      text.append('w');
+      for (int x = i; x > 0; x /= 26) {
+        text.append((char) ('a' + x % 26));
+      }
+      text.append(' ');
+    }
+    Files.writeString(tempFile, text);
+    WordGraph chain = new WordGraph();
+    chain.buildGraphFromFile(tempFile.toString());
+    assertEquals(200_000, chain.analyzeGraph().componentCount());
+  }
+}
+
+// WordGraphShortestPathLengthsTest.java
+class WordGraphShortestPathLengthsTest {
+  private WordGraph wordGraph;
+  private Path tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    wordGraph = new WordGraph();
+    // Two files, so no edge joins them: a->b, b->c, c->d, a->c
+    tempFile = Files.createTempFile("path_lengths_graph", ".txt");
+    Files.writeString(tempFile, "a b c d");
+    wordGraph.buildGraphFromFile(tempFile.toString());
+    Files.writeString(tempFile, "a c");
+    wordGraph.buildGraphFromFile(tempFile.toString());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  @DisplayName("TC-SPL-001: 多源最短路径长度矩阵")
+  void testCalcShortestPathLengths_Matrix() {
+    int[][] lengths = wordGraph.calcShortestPathLengths(List.of("A", "c", "d", "unknown"));
+    int u = WordGraph.UNREACHABLE;
+    assertArrayEquals(new int[] {0, 1, 2, u}, lengths[0]);
+    assertArrayEquals(new int[] {u, 0, 1, u}, lengths[1]);
+    assertArrayEquals(new int[] {u, u, 0, u}, lengths[2]);
+    assertArrayEquals(new int[] {u, u, u, u}, lengths[3]);
+  }
+
+  @Test
+  @DisplayName("TC-SPL-002: 与单对最短路径结果一致")
+  void testCalcShortestPathLengths_MatchesCalcShortestPath() {
+    int[][] lengths = wordGraph.calcShortestPathLengths(List.of("a", "b", "d"));
+    assertTrue(wordGraph.calcShortestPath("a", "d").endsWith("(length: " + lengths[0][2] + ")"));
+    assertTrue(wordGraph.calcShortestPath("b", "d").endsWith("(length: " + lengths[1][2] + ")"));
+  }
+
+  @Test
+  @DisplayName("TC-SPL-003: 流式写出矩阵")
+  void testWriteShortestPathLengths_Tsv() throws IOException {
+    StringWriter out = new StringWriter();
+    ForkJoinPool pool = new ForkJoinPool(2);
+    wordGraph.writeShortestPathLengths(List.of("a", "d"), out, pool);
+    pool.shutdown();
+    assertEquals("\ta\td\na\t0\t2\nd\t-1\t0\n", out.toString());
+  }
+}
+
+// WordGraphPathEnumerationTest.java
+class WordGraphPathEnumerationTest {
+  private WordGraph wordGraph;
+  private Path tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    wordGraph = new WordGraph();
+    // Separate files, so no edge joins them: a->b, b->d, d->e, a->c, c->d, c->e, b->e
+    tempFile = Files.createTempFile("path_enumeration_graph", ".txt");
+    for (String line : List.of("a b d e", "a c d", "c e", "b e")) {
+      Files.writeString(tempFile, line);
+      wordGraph.buildGraphFromFile(tempFile.toString());
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  @DisplayName("TC-PE-001: 枚举所有等长最短路径")
+  void testAllShortestPaths_Ties() {
+    Set<List<String>> paths = new HashSet<>();
+    wordGraph.allShortestPaths("a", "e").forEachRemaining(paths::add);
+    assertEquals(Set.of(List.of("a", "b", "e"), List.of("a", "c", "e")), paths);
+  }
+
+  @Test
+  @DisplayName("TC-PE-002: K 条最短无环路径按长度递增")
+  void testCalcKShortestPaths_Order() {
+    List<List<String>> paths = wordGraph.calcKShortestPaths("a", "e", 10);
+    assertEquals(List.of(
+        List.of("a", "b", "e"),
+        List.of("a", "c", "e"),
+        List.of("a", "b", "d", "e"),
+        List.of("a", "c", "d", "e")), paths);
+  }
+
+  @Test
+  @DisplayName("TC-PE-003: 不可达或单词不存在时为空")
+  void testPathEnumeration_Unreachable() {
+    assertFalse(wordGraph.allShortestPaths("e", "a").hasNext());
+    assertFalse(wordGraph.kShortestPaths("a", "unknown").hasNext());
+    assertEquals(List.of(List.of("a")), wordGraph.calcKShortestPaths("a", "a", 3));
+  }
+}
+
+// WordGraphTokenizerTest.java
+class WordGraphTokenizerTest {
+  private Path tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    tempFile = Files.createTempFile("tokenizer_graph", ".txt");
+    Files.writeString(tempFile, "The café serves the naïve,\nthe CAFÉ crowd.");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(tempFile);
+  }
+
+  private static List<String> tokens(Tokenizer tokenizer, String text) {
+    List<String> result = new ArrayList<>();
+    tokenizer.tokenize(text, (token, length, start, end) -> result.add(new String(token, 0, length)));
+    return result;
+  }
+
+  @Test
+  @DisplayName("TC-TOK-001: 默认分词与原正则规则一致")
+  void testAsciiTokenizer_MatchesRegexCleaning() {
+    String text = "  Hello, WORLD!! it's 2nd-rate\tcafé ";
+    List<String> expected = List.of(text.replaceAll("[^a-zA-Z]", " ").toLowerCase().trim().split("\\s+"));
+    assertEquals(expected, tokens(new AsciiTokenizer(), text));
+    assertEquals(List.of("Hello", "WORLD"), tokens(new AsciiTokenizer(false), "Hello, WORLD"));
+  }
+
+  @Test
+  @DisplayName("TC-TOK-002: Unicode 分词与停用词过滤")
+  void testUnicodeTokenizer_WithStopWords() {
+    Tokenizer tokenizer = new StopWordFilter(new UnicodeTokenizer(), List.of("the"));
+    assertEquals(List.of("café", "serves", "naïve"), tokens(tokenizer, "The Café serves the NAÏVE"));
+  }
+
+  @Test
+  @DisplayName("TC-TOK-003: 建图与查询使用同一分词流程")
+  void testWordGraph_SharedPipeline() {
+    WordGraph wordGraph = new WordGraph(new StopWordFilter(new UnicodeTokenizer(), List.of("the")));
+    assertTrue(wordGraph.buildGraphFromFile(tempFile.toString()));
+    assertEquals("The bridge words from \"café\" to \"naïve\" is: \"serves\".",
+        wordGraph.queryBridgeWords("CAFÉ", "Naïve"));
+    assertEquals("Café serves naïve", wordGraph.generateNewText("Café the naïve"));
+  }
+
+  @Test
+  @DisplayName("TC-TOK-004: 复制的分词器独立且结果相同")
+  void testTokenizer_Copy() {
+    Tokenizer tokenizer = new StopWordFilter(new UnicodeTokenizer(false), List.of("the"));
+    Tokenizer copy = tokenizer.copy();
+    assertNotSame(tokenizer, copy);
+    assertEquals(tokens(tokenizer, "The Café serves the NAÏVE"),
+        tokens(copy, "The Café serves the NAÏVE"));
+  }
+}
+
+// WordGraphExportTest.java
+class WordGraphExportTest {
+  private WordGraph wordGraph;
+  private Path tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    wordGraph = new WordGraph();
+    // a->b (2), b->a (1), b->c (1)
+    tempFile = Files.createTempFile("export_graph", ".txt");
+    Files.writeString(tempFile, "a b a b c");
+    wordGraph.buildGraphFromFile(tempFile.toString());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  @DisplayName("TC-EXP-001: 导出有序 TSV 边表")
+  void testExportGraph_SortedTsv() throws IOException {
+    StringWriter out = new StringWriter();
+    wordGraph.exportGraph(out, GraphFormat.TSV, true, 0);
+    assertEquals("a\tb\t2\nb\ta\t1\nb\tc\t1\n", out.toString());
+  }
+
+  @Test
+  @DisplayName("TC-EXP-002: 最小权重过滤")
+  void testExportGraph_MinWeight() throws IOException {
+    StringWriter out = new StringWriter();
+    wordGraph.exportGraph(out, GraphFormat.DOT, true, 2);
+    assertEquals("digraph WordGraph {\n  \"a\" -> \"b\" [weight=2, label=2];\n}\n", out.toString());
+  }
+
+  @Test
+  @DisplayName("TC-EXP-003: 导出 GraphML 文件")
+  void testExportGraph_GraphMlFile() throws IOException {
+    Path exportFile = Files.createTempFile("export_graph", ".graphml");
+    try {
+      assertTrue(wordGraph.exportGraph(exportFile.toString(), GraphFormat.GRAPHML, true, 0));
+      String xml = Files.readString(exportFile);
+      assertTrue(xml.contains("<node id=\"c\"/>"));
+      assertTrue(xml.contains("<edge source=\"a\" target=\"b\"><data key=\"weight\">2</data></edge>"));
+      assertTrue(xml.endsWith("</graphml>\n"));
+    } finally {
+      Files.deleteIfExists(exportFile);
+    }
+  }
+
+  @Test
+  @DisplayName("TC-EXP-004: 控制台展示格式不变")
+  @ExtendWith(SystemOutCapture.class)
+  void testShowDirectedGraph_Format(SystemOutCapture capture) {
+    wordGraph.showDirectedGraph();
+    assertTrue(capture.getOutput().startsWith("Directed Graph Representation:"));
+    assertTrue(capture.getOutput().contains("a -> b (weight: 2)"));
+    assertTrue(capture.getOutput().contains("b -> a (weight: 1), c (weight: 1)")
+        || capture.getOutput().contains("b -> c (weight: 1), a (weight: 1)"));
+  }
+}
+
+// WordGraphFilterTest.java
+class WordGraphFilterTest {
+  private WordGraph wordGraph;
+  private Path tempFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    wordGraph = new WordGraph();
+    // a->b (3), b->a (3), a->c (1), c->b (1), b->d (1)
+    tempFile = Files.createTempFile("filter_graph", ".txt");
+    Files.writeString(tempFile, "a b a b a c b a b d");
+    wordGraph.buildGraphFromFile(tempFile.toString());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(tempFile);
+  }
+
+  private static String export(WordGraph graph) throws IOException {
+    StringWriter out = new StringWriter();
+    graph.exportGraph(out, GraphFormat.TSV, true, 0);
+    return out.toString();
+  }
+
+  @Test
+  @DisplayName("TC-GF-001: 最小边权过滤")
+  void testFiltered_MinEdgeWeight() throws IOException {
+    WordGraph view = wordGraph.filtered(GraphFilter.NONE.withMinEdgeWeight(2));
+    assertEquals("a\tb\t3\nb\ta\t3\n", export(view));
+    // Words that only lost edges stay in the graph
+    assertEquals("No bridge words from \"a\" to \"b\"!", view.queryBridgeWords("a", "b"));
+    assertEquals("\"a\" and \"d\" are unreachable.", view.calcShortestPath("a", "d"));
+    // The original graph is untouched
+    assertEquals("The bridge words from \"a\" to \"b\" is: \"c\".", wordGraph.queryBridgeWords("a", "b"));
+  }
+
+  @Test
+  @DisplayName("TC-GF-002: 每个节点保留前 k 条出边")
+  void testFiltered_MaxOutEdges() throws IOException {
+    WordGraph view = wordGraph.filtered(GraphFilter.NONE.withMaxOutEdges(1));
+    assertEquals("a\tb\t3\nb\ta\t3\nc\tb\t1\n", export(view));
+  }
+
+  @Test
+  @DisplayName("TC-GF-003: 词频截断")
+  void testFiltered_MinWordFrequency() throws IOException {
+    assertEquals(4, wordGraph.wordFrequency("A"));
+    WordGraph view = wordGraph.filtered(GraphFilter.NONE.withMinWordFrequency(2));
+    assertEquals("a\tb\t3\nb\ta\t3\n", export(view));
+    assertEquals("No \"c\" in the graph!", view.queryBridgeWords("c", "b"));
+    assertEquals(0, view.wordFrequency("d"));
+    assertEquals(-1.0, view.calPageRank("d"));
+  }
+
+  @Test
+  @DisplayName("TC-GF-004: 不过滤时结果与原图一致")
+  void testFiltered_None() throws IOException {
+    WordGraph view = wordGraph.filtered(GraphFilter.NONE);
+    assertEquals(export(wordGraph), export(view));
+    assertEquals(wordGraph.calcShortestPath("c", "d"), view.calcShortestPath("c", "d"));
+    assertEquals(wordGraph.calPageRank("b"), view.calPageRank("b"), 1e-12);
+  }
+
+  @Test
+  @DisplayName("TC-GF-005: 非法过滤参数")
+  void testFilter_InvalidArguments() throws IOException {
+    assertThrows(IllegalArgumentException.class, () -> GraphFilter.NONE.withMinEdgeWeight(0));
+    assertThrows(IllegalArgumentException.class, () -> GraphFilter.NONE.withMaxOutEdges(-1));
+    assertThrows(IllegalArgumentException.class, () -> GraphFilter.NONE.withMinWordFrequency(0));
+    // k = 0 is valid and keeps the words but none of the edges
+    assertEquals("", export(wordGraph.filtered(GraphFilter.NONE.withMaxOutEdges(0))));
+  }
+}